@@ -1,7 +1,13 @@
 package com.example;
 
+import com.example.config.ReadWriteRoutingDataSource;
+import com.example.ingestion.CommentWriteBehindQueue;
+import com.example.warmup.JitWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,6 +23,15 @@ import java.util.Map;
 @RestController
 public class Application {
 
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired(required = false)
+    private JitWarmup jitWarmup;
+
+    @Autowired(required = false)
+    private CommentWriteBehindQueue writeBehindQueue;
+
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
@@ -24,13 +39,26 @@ public class Application {
     /**
      * Health check endpoint
      * Used by Docker and monitoring systems to verify application status
+     * Reports WARMING_UP with 503 until the JIT warm-up (if enabled) has finished
      */
     @GetMapping("/health")
-    public Map<String, Object> health() {
+    public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        boolean warmingUp = jitWarmup != null && !jitWarmup.isComplete();
+        health.put("status", warmingUp ? "WARMING_UP" : "UP");
         health.put("timestamp", LocalDateTime.now().toString());
         health.put("service", "releason-karate-demo");
-        return health;
+        if (routingDataSource != null) {
+            health.put("dataSource", routingDataSource.getRouteCounts());
+        }
+        if (jitWarmup != null) {
+            health.put("warmup", jitWarmup.getReport());
+        }
+        if (writeBehindQueue != null) {
+            health.put("commentWriteBehind", Map.of(
+                    "pending", writeBehindQueue.pending(),
+                    "deadLetters", writeBehindQueue.deadLetters()));
+        }
+        return ResponseEntity.status(warmingUp ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).body(health);
     }
 }
@@ -0,0 +1,139 @@
+package com.example.cache;
+
+import com.example.config.ReadWriteRoutingDataSource;
+import com.example.support.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * LRU cache of list query results keyed by parent id
+ * (e.g. the comments of a post or the posts of a user)
+ * The memory budget is expressed in cached rows: each entry weighs its list
+ * size plus one, and least recently used entries are evicted once the total
+ * exceeds the budget. Writers invalidate the affected parent after their
+ * transaction commits; a load that overlaps an invalidation of the same
+ * parent is returned to its caller but not cached, so the cache never keeps
+ * stale results. Loads read from the primary, which invalidation follows.
+ */
+public class ParentListCache<T> {
+
+    /** Parents share invalidation versions per stripe, which bounds memory for any number of parents */
+    private static final int VERSION_STRIPES = 4096;
+
+    private final String name;
+    private final long maxRows;
+
+    /** Access-ordered, so iteration starts at the least recently used entry */
+    private final LinkedHashMap<UUID, List<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long rows;
+    private final long[] versions = new long[VERSION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ParentListCache(String name, long maxRows) {
+        this.name = name;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Cached list for the parent, loading and caching it on a miss
+     */
+    public List<T> get(UUID parentId, Function<UUID, List<T>> loader) {
+        long version;
+        synchronized (this) {
+            List<T> cached = entries.get(parentId);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            version = versions[stripe(parentId)];
+        }
+        misses.increment();
+
+        List<T> loaded;
+        boolean forced = ReadWriteRoutingDataSource.forcePrimary(true);
+        try {
+            loaded = List.copyOf(loader.apply(parentId));
+        } finally {
+            ReadWriteRoutingDataSource.forcePrimary(forced);
+        }
+        long weight = loaded.size() + 1L;
+        synchronized (this) {
+            if (version == versions[stripe(parentId)] && weight <= maxRows) {
+                List<T> previous = entries.put(parentId, loaded);
+                rows += weight - (previous != null ? previous.size() + 1L : 0);
+                evictOverBudget();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the cached list of the parent once the current transaction
+     * commits, or right away when there is no transaction
+     */
+    public void invalidate(UUID parentId) {
+        AfterCommit.run(() -> remove(parentId));
+    }
+
+    /**
+     * Drop everything cached before startup writers (sample data, scale
+     * data, WAL replay) finished, since they do not invalidate
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onApplicationReady() {
+        for (int i = 0; i < versions.length; i++) {
+            versions[i]++;
+        }
+        entries.clear();
+        rows = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Map<String, Long> getStats() {
+        return Map.of(
+                "entries", (long) entries.size(),
+                "rows", rows,
+                "maxRows", maxRows,
+                "hits", hits.sum(),
+                "misses", misses.sum(),
+                "evictions", evictions.sum());
+    }
+
+    private synchronized void remove(UUID parentId) {
+        versions[stripe(parentId)]++;
+        List<T> removed = entries.remove(parentId);
+        if (removed != null) {
+            rows -= removed.size() + 1L;
+        }
+    }
+
+    private static int stripe(UUID parentId) {
+        return Math.floorMod(parentId.hashCode(), VERSION_STRIPES);
+    }
+
+    private void evictOverBudget() {
+        Iterator<List<T>> eldest = entries.values().iterator();
+        while (rows > maxRows && eldest.hasNext()) {
+            rows -= eldest.next().size() + 1L;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.cache;
+
+import com.example.config.ReadWriteRoutingDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves GET /api/posts and /api/users collection and by-id responses from
+ * {@link ResponseBodyCache}
+ * A hit writes the stored bytes straight to the response without running
+ * the controller or Jackson; a miss renders normally, reading from the
+ * primary so a lagging replica cannot fill the cache, and caches 200 bodies.
+ */
+@Component
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CACHEABLE_PATH =
+            Pattern.compile("^/api/(posts|users)(/[0-9a-fA-F-]{36})?$");
+
+    @Autowired
+    private ResponseBodyCache cache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cache.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || !CACHEABLE_PATH.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Matcher matcher = CACHEABLE_PATH.matcher(request.getRequestURI());
+        matcher.matches();
+        ResponseBodyCache.Region region = "posts".equals(matcher.group(1))
+                ? ResponseBodyCache.Region.POSTS
+                : ResponseBodyCache.Region.USERS;
+        String key = cacheKey(request);
+
+        ResponseBodyCache.Entry cached = cache.get(key);
+        if (cached != null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(cached.contentType());
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        long generation = cache.generation(region);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            boolean previous = ReadWriteRoutingDataSource.forcePrimary(true);
+            try {
+                chain.doFilter(request, wrapper);
+            } finally {
+                ReadWriteRoutingDataSource.forcePrimary(previous);
+            }
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+                cache.put(key, region, generation, wrapper.getContentType(), wrapper.getContentAsByteArray());
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Endpoint, query parameters and requested representation
+     */
+    private static String cacheKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI()
+                + (query != null ? "?" + query : "")
+                + "|" + (accept != null ? accept : "*/*");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+
+import com.example.cache.ParentListCache;
+import com.example.entity.Comment;
+import com.example.entity.Post;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory caches of per-parent list queries
+ * Budgets are in cached rows; 0 disables a cache.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public ParentListCache<Post> postsByUserCache(
+            @Value("${app.cache.posts-by-user.max-rows:50000}") long maxRows) {
+        return new ParentListCache<>("postsByUser", maxRows);
+    }
+
+    @Bean
+    public ParentListCache<Comment> commentsByPostCache(
+            @Value("${app.cache.comments-by-post.max-rows:100000}") long maxRows) {
+        return new ParentListCache<>("commentsByPost", maxRows);
+    }
+}
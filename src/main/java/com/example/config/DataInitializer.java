@@ -10,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -17,8 +18,10 @@ import java.util.List;
 
 /**
  * Initializes the database with sample data on application startup
+ * Replaced by {@link ScaleDataGenerator} when the "scale" profile is active
  */
 @Component
+@Profile("!scale")
 public class DataInitializer implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
@@ -0,0 +1,58 @@
+package com.example.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes connections to the replica pool for read-only transactions
+ * and to the primary pool for everything else, or always to the primary
+ * while {@link #forcePrimary} is set on the calling thread
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> primaryForced = ThreadLocal.withInitial(() -> false);
+
+    private final LongAdder primaryLookups = new LongAdder();
+    private final LongAdder replicaLookups = new LongAdder();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!primaryForced.get() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaLookups.increment();
+            return Route.REPLICA;
+        }
+        primaryLookups.increment();
+        return Route.PRIMARY;
+    }
+
+    /**
+     * Route connections opened by this thread to the primary, even in
+     * read-only transactions, until reset; returns the previous setting so
+     * callers can restore it. Caches use this when loading, because their
+     * invalidation follows the primary commit and a lagging replica could
+     * still return the old rows.
+     */
+    public static boolean forcePrimary(boolean forced) {
+        boolean previous = primaryForced.get();
+        primaryForced.set(forced);
+        return previous;
+    }
+
+    /**
+     * Number of connections handed out per route since startup
+     */
+    public Map<String, Long> getRouteCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("primary", primaryLookups.sum());
+        counts.put("replica", replicaLookups.sum());
+        return counts;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.config;
+
+import com.example.id.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates a large synthetic dataset on startup (profile "scale")
+ * Posts per user and comments per post follow a Zipf distribution, so a few
+ * users and threads are very hot while most have little or no activity.
+ * The same seed always produces the same users, posts and comments.
+ * Set app.scale-data.id-strategy to v4 or v7 to compare insert throughput
+ * of random and time-ordered primary keys; ids come from their own random
+ * streams, so both strategies generate the same users, posts and comments.
+ */
+@Component
+@Profile("scale")
+public class ScaleDataGenerator implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScaleDataGenerator.class);
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, email, name, age, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_POST =
+            "INSERT INTO posts (id, title, content, user_id, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (id, content, post_id, user_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    /** Users handled by one generator task */
+    private static final int USERS_PER_TASK = 10_000;
+
+    private static final long HISTORY_SECONDS = 365L * 24 * 60 * 60;
+
+    /** Base time of derived v7 ids (2024-01-01T00:00:00Z), fixed so they are reproducible */
+    private static final long ID_EPOCH_MILLIS = 1_704_067_200_000L;
+
+    /** Milliseconds of v7 timestamp space reserved for the post and comment ids of one range */
+    private static final long RANGE_ID_SPAN_MILLIS = 60_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.scale-data.users:1000000}")
+    private int userCount;
+
+    @Value("${app.scale-data.seed:42}")
+    private long seed;
+
+    @Value("${app.scale-data.max-posts-per-user:10}")
+    private int maxPostsPerUser;
+
+    @Value("${app.scale-data.max-comments-per-post:20}")
+    private int maxCommentsPerPost;
+
+    @Value("${app.scale-data.zipf-exponent:1.5}")
+    private double zipfExponent;
+
+    @Value("${app.scale-data.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int threads;
+
+    @Value("${app.scale-data.batch-size:1000}")
+    private int batchSize;
+
+    /** Latest creation time in the dataset; fixed so timestamps do not depend on when the load runs */
+    @Value("${app.scale-data.anchor-time:2025-01-01T00:00:00}")
+    private String anchorTime;
+
+    @Value("${app.scale-data.id-strategy:v7}")
+    private String idStrategy;
+
+    private final LongAdder usersInserted = new LongAdder();
+    private final LongAdder postsInserted = new LongAdder();
+    private final LongAdder commentsInserted = new LongAdder();
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (!"v4".equals(idStrategy) && !"v7".equals(idStrategy)) {
+            throw new IllegalArgumentException("app.scale-data.id-strategy must be v4 or v7: " + idStrategy);
+        }
+        logger.info("Generating scale dataset: {} users, seed {}, {} threads, batch size {}, {} ids",
+                userCount, seed, threads, batchSize, idStrategy);
+
+        // Ranks start at 1; shift by one so the most likely count is zero
+        ZipfDistribution postsPerUser = new ZipfDistribution(maxPostsPerUser + 1, zipfExponent);
+        ZipfDistribution commentsPerPost = new ZipfDistribution(maxCommentsPerPost + 1, zipfExponent);
+        LocalDateTime anchor = LocalDateTime.parse(anchorTime);
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int from = 0; from < userCount; from += USERS_PER_TASK) {
+                int firstUser = from;
+                int lastUser = Math.min(from + USERS_PER_TASK, userCount);
+                tasks.add(executor.submit(() ->
+                        generate(firstUser, lastUser, postsPerUser, commentsPerPost, anchor)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long total = usersInserted.sum() + postsInserted.sum() + commentsInserted.sum();
+        logger.info("Scale dataset loaded: {} users, {} posts, {} comments with {} ids in {} s ({} rows/s)",
+                usersInserted.sum(), postsInserted.sum(), commentsInserted.sum(), idStrategy,
+                String.format("%.1f", seconds), Math.round(total / Math.max(seconds, 0.001)));
+    }
+
+    /**
+     * Generate and insert the users in [firstUser, lastUser) with their posts
+     * and comments. Each range has its own random stream derived from the
+     * seed, so the output does not depend on thread scheduling.
+     */
+    private void generate(int firstUser, int lastUser, ZipfDistribution postsPerUser,
+                          ZipfDistribution commentsPerPost, LocalDateTime anchor) {
+        Random random = new Random(seed * 31 + firstUser);
+        RangeIds ids = new RangeIds(firstUser);
+        List<Object[]> users = new ArrayList<>(batchSize);
+        List<Object[]> posts = new ArrayList<>(batchSize);
+        List<Object[]> comments = new ArrayList<>(batchSize);
+
+        for (int u = firstUser; u < lastUser; u++) {
+            UUID userId = userId(u);
+            Timestamp userCreated = timestampBefore(anchor, random);
+            users.add(new Object[]{userId, "user" + u + "@scale.example.com", "Scale User " + u,
+                    18 + random.nextInt(63), userCreated, userCreated});
+            flushIfFull(INSERT_USER, users, usersInserted);
+
+            int postCount = postsPerUser.sample(random) - 1;
+            for (int p = 0; p < postCount; p++) {
+                UUID postId = ids.next();
+                posts.add(new Object[]{postId, "Post " + p + " by user " + u,
+                        "Synthetic post content generated for scale testing", userId,
+                        timestampBefore(anchor, random)});
+                flushIfFull(INSERT_POST, posts, postsInserted);
+
+                int commentCount = commentsPerPost.sample(random) - 1;
+                for (int c = 0; c < commentCount; c++) {
+                    comments.add(new Object[]{ids.next(), "Comment " + c + " on post " + p,
+                            postId, userId(random.nextInt(userCount)), timestampBefore(anchor, random)});
+                    flushIfFull(INSERT_COMMENT, comments, commentsInserted);
+                }
+            }
+        }
+
+        flush(INSERT_USER, users, usersInserted);
+        flush(INSERT_POST, posts, postsInserted);
+        flush(INSERT_COMMENT, comments, commentsInserted);
+    }
+
+    private void flushIfFull(String sql, List<Object[]> rows, LongAdder counter) {
+        if (rows.size() >= batchSize) {
+            flush(sql, rows, counter);
+        }
+    }
+
+    private void flush(String sql, List<Object[]> rows, LongAdder counter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        counter.add(rows.size());
+        rows.clear();
+    }
+
+    /**
+     * Deterministic id of the user with the given index, so comments can
+     * reference any user without keeping all user ids in memory
+     */
+    private UUID userId(int index) {
+        Random random = new Random(seed ^ (0x9E3779B97F4A7C15L * (index + 1)));
+        if ("v7".equals(idStrategy)) {
+            // One millisecond per user keeps the ids ordered by index
+            return UuidV7.of(ID_EPOCH_MILLIS + index, 0, random.nextLong());
+        }
+        return randomUuid(random);
+    }
+
+    /**
+     * Post and comment ids of one user range, derived from the seed and the
+     * range alone. v7 ids count up from the start of the range's own slice of
+     * timestamp space, so each loader thread appends to its own index region.
+     */
+    private final class RangeIds {
+
+        private final Random random;
+        private final long firstMillis;
+        private long sequence;
+
+        RangeIds(int firstUser) {
+            this.random = new Random(~(seed * 31 + firstUser));
+            this.firstMillis = ID_EPOCH_MILLIS + (long) (firstUser / USERS_PER_TASK) * RANGE_ID_SPAN_MILLIS;
+        }
+
+        UUID next() {
+            if (!"v7".equals(idStrategy)) {
+                return randomUuid(random);
+            }
+            long n = sequence++;
+            return UuidV7.of(firstMillis + (n >>> 12), (int) (n & 0xFFF), random.nextLong());
+        }
+    }
+
+    private static UUID randomUuid(Random random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static Timestamp timestampBefore(LocalDateTime anchor, Random random) {
+        return Timestamp.valueOf(anchor.minusSeconds((long) (random.nextDouble() * HISTORY_SECONDS)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.config;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf distribution over the ranks 1..n with exponent s
+ * Sampling is a binary search over the precomputed cumulative distribution.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Draw a rank in 1..n; rank 1 is the most likely
+     */
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cumulative.length - 1) + 1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.controller;
+
+import com.example.cache.ParentListCache;
+import com.example.cache.ResponseBodyCache;
+import com.example.profiling.ContinuousRecording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for operational tasks
+ * Provides on-demand dumps of the continuous JFR recording and cache statistics
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private static final long MAX_DUMP_MINUTES = 24 * 60;
+
+    @Autowired(required = false)
+    private ContinuousRecording continuousRecording;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private List<ParentListCache<?>> parentListCaches;
+
+    /**
+     * Size, hit and eviction counters of every in-memory cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        logger.info("GET /admin/cache - Fetching cache statistics");
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("responseBodies", responseBodyCache.getStats());
+        for (ParentListCache<?> cache : parentListCaches) {
+            stats.put(cache.getName(), cache.getStats());
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Dump the last N minutes of the JFR recording to a .jfr file
+     */
+    @PostMapping("/jfr/dump")
+    public ResponseEntity<?> dumpRecording(@RequestParam(defaultValue = "5") long minutes) {
+        logger.info("POST /admin/jfr/dump - Dumping last {} minutes of JFR recording", minutes);
+
+        if (continuousRecording == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Continuous JFR recording is disabled");
+        }
+        if (minutes < 1 || minutes > MAX_DUMP_MINUTES) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Minutes must be between 1 and " + MAX_DUMP_MINUTES);
+        }
+
+        try {
+            Path file = continuousRecording.dump(minutes);
+            Map<String, Object> result = new HashMap<>();
+            result.put("file", file.toAbsolutePath().toString());
+            result.put("bytes", Files.size(file));
+            result.put("minutes", minutes);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            logger.error("Failed to dump JFR recording", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to dump JFR recording: " + e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.controller;
 
+import com.example.cache.ParentListCache;
 import com.example.entity.Comment;
+import com.example.id.UuidV7;
+import com.example.ingestion.CommentWriteBehindQueue;
 import com.example.repository.CommentRepository;
 import com.example.repository.PostRepository;
 import com.example.repository.UserRepository;
+import com.example.trending.TrendingPostsTracker;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -34,17 +39,31 @@ public class CommentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ParentListCache<Comment> commentsByPostCache;
+
+    @Autowired
+    private TrendingPostsTracker trendingPostsTracker;
+
+    @Autowired(required = false)
+    private CommentWriteBehindQueue writeBehindQueue;
+
     /**
      * Get all comments
-     * Optionally filter by postId
+     * Optionally filter by postId, or page by id with after/limit
      */
     @GetMapping
-    public ResponseEntity<List<Comment>> getAllComments(@RequestParam(required = false) UUID postId) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Comment>> getAllComments(@RequestParam(required = false) UUID postId,
+                                                        @RequestParam(required = false) UUID after,
+                                                        @RequestParam(required = false) Integer limit) {
         logger.info("GET /api/comments - Fetching comments" + (postId != null ? " for post: " + postId : ""));
         
         List<Comment> comments;
         if (postId != null) {
-            comments = commentRepository.findByPostId(postId);
+            comments = commentsByPostCache.get(postId, commentRepository::findByPostId);
+        } else if (Keyset.requested(after, limit)) {
+            comments = commentRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.limit(limit));
         } else {
             comments = commentRepository.findAll();
         }
@@ -56,6 +75,7 @@ public class CommentController {
      * Get comment by ID
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getCommentById(@PathVariable UUID id) {
         logger.info("GET /api/comments/{} - Fetching comment by ID", id);
         return commentRepository.findById(id)
@@ -66,9 +86,12 @@ public class CommentController {
 
     /**
      * Create new comment
-     * Validates that post and user exist
+     * Validates that post and user exist. With write-behind ingestion enabled
+     * the comment is queued and 202 is returned with its assigned id; it
+     * becomes readable once the background writer has flushed it.
      */
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createComment(@Valid @RequestBody Comment comment) {
         logger.info("POST /api/comments - Creating new comment on post: {}", comment.getPostId());
         
@@ -86,7 +109,21 @@ public class CommentController {
                     .body("User not found with id: " + comment.getUserId());
         }
 
+        if (writeBehindQueue != null) {
+            comment.setId(UuidV7.next());
+            if (!writeBehindQueue.offer(comment)) {
+                logger.warn("Comment ingestion queue is full, rejecting comment on post: {}", comment.getPostId());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Comment ingestion queue is full, retry later");
+            }
+            trendingPostsTracker.record(comment.getPostId(), comment.getCreatedAt(), 1);
+            logger.info("Comment accepted for write-behind with ID: {}", comment.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(comment);
+        }
+
         Comment savedComment = commentRepository.save(comment);
+        commentsByPostCache.invalidate(savedComment.getPostId());
+        trendingPostsTracker.record(savedComment.getPostId(), savedComment.getCreatedAt(), 1);
         logger.info("Comment created successfully with ID: {}", savedComment.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedComment);
     }
@@ -95,12 +132,15 @@ public class CommentController {
      * Delete comment
      */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteComment(@PathVariable UUID id) {
         logger.info("DELETE /api/comments/{} - Deleting comment", id);
         
         return commentRepository.findById(id)
                 .map(comment -> {
                     commentRepository.delete(comment);
+                    commentsByPostCache.invalidate(comment.getPostId());
+                    trendingPostsTracker.record(comment.getPostId(), comment.getCreatedAt(), -1);
                     logger.info("Comment deleted successfully: {}", id);
                     return ResponseEntity.noContent().build();
                 })
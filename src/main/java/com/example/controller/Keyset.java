@@ -0,0 +1,37 @@
+package com.example.controller;
+
+import org.springframework.data.domain.Limit;
+
+import java.util.UUID;
+
+/**
+ * Keyset pagination over time-ordered ids
+ * A page holds the rows with an id greater than the last id of the previous
+ * page, so deep pages cost the same as the first one (no OFFSET scan).
+ */
+final class Keyset {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    /** Smallest possible UUID, the cursor of the first page */
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private Keyset() {
+    }
+
+    static boolean requested(UUID after, Integer limit) {
+        return after != null || limit != null;
+    }
+
+    static UUID after(UUID after) {
+        return after != null ? after : FIRST;
+    }
+
+    static Limit limit(Integer limit) {
+        if (limit == null) {
+            return Limit.of(DEFAULT_LIMIT);
+        }
+        return Limit.of(Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.controller;
 
+import com.example.cache.ParentListCache;
+import com.example.cache.ResponseBodyCache;
 import com.example.entity.Post;
 import com.example.repository.PostRepository;
 import com.example.repository.UserRepository;
+import com.example.trending.TrendingPost;
+import com.example.trending.TrendingPostsTracker;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -30,17 +35,31 @@ public class PostController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ParentListCache<Post> postsByUserCache;
+
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
+    @Autowired
+    private TrendingPostsTracker trendingPostsTracker;
+
     /**
      * Get all posts
-     * Optionally filter by userId
+     * Optionally filter by userId, or page by id with after/limit
      */
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts(@RequestParam(required = false) UUID userId) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Post>> getAllPosts(@RequestParam(required = false) UUID userId,
+                                                  @RequestParam(required = false) UUID after,
+                                                  @RequestParam(required = false) Integer limit) {
         logger.info("GET /api/posts - Fetching posts" + (userId != null ? " for user: " + userId : ""));
         
         List<Post> posts;
         if (userId != null) {
-            posts = postRepository.findByUserId(userId);
+            posts = postsByUserCache.get(userId, postRepository::findByUserId);
+        } else if (Keyset.requested(after, limit)) {
+            posts = postRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.limit(limit));
         } else {
             posts = postRepository.findAll();
         }
@@ -48,10 +67,32 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Get trending posts
+     * Ranks posts by comments created within the window (e.g. 15m, 1h, 24h),
+     * served from in-memory counters without touching the database
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingPosts(@RequestParam(defaultValue = "1h") String window,
+                                              @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/posts/trending - Fetching trending posts for window: {}", window);
+
+        if (!trendingPostsTracker.supports(window)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Unsupported window: " + window + " (supported: "
+                            + String.join(", ", trendingPostsTracker.getWindows()) + ")");
+        }
+
+        List<TrendingPost> trending = trendingPostsTracker.top(window,
+                limit != null ? limit : trendingPostsTracker.getTopK());
+        return ResponseEntity.ok(trending);
+    }
+
     /**
      * Get post by ID
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getPostById(@PathVariable UUID id) {
         logger.info("GET /api/posts/{} - Fetching post by ID", id);
         return postRepository.findById(id)
@@ -65,6 +106,7 @@ public class PostController {
      * Validates that user exists
      */
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createPost(@Valid @RequestBody Post post) {
         logger.info("POST /api/posts - Creating new post by user: {}", post.getUserId());
         
@@ -76,6 +118,8 @@ public class PostController {
         }
 
         Post savedPost = postRepository.save(post);
+        postsByUserCache.invalidate(savedPost.getUserId());
+        responseBodyCache.invalidate(ResponseBodyCache.Region.POSTS);
         logger.info("Post created successfully with ID: {}", savedPost.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedPost);
     }
@@ -84,6 +128,7 @@ public class PostController {
      * Update existing post
      */
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updatePost(@PathVariable UUID id, @RequestBody Post postDetails) {
         logger.info("PUT /api/posts/{} - Updating post", id);
         
@@ -97,6 +142,8 @@ public class PostController {
                     }
                     
                     Post updatedPost = postRepository.save(post);
+                    postsByUserCache.invalidate(updatedPost.getUserId());
+                    responseBodyCache.invalidate(ResponseBodyCache.Region.POSTS);
                     logger.info("Post updated successfully: {}", id);
                     return ResponseEntity.ok(updatedPost);
                 })
@@ -108,12 +155,16 @@ public class PostController {
      * Delete post
      */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deletePost(@PathVariable UUID id) {
         logger.info("DELETE /api/posts/{} - Deleting post", id);
         
         return postRepository.findById(id)
                 .map(post -> {
                     postRepository.delete(post);
+                    postsByUserCache.invalidate(post.getUserId());
+                    trendingPostsTracker.forget(id);
+                    responseBodyCache.invalidate(ResponseBodyCache.Region.POSTS);
                     logger.info("Post deleted successfully: {}", id);
                     return ResponseEntity.noContent().build();
                 })
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.cache.ResponseBodyCache;
 import com.example.entity.User;
 import com.example.repository.UserRepository;
 import jakarta.validation.Valid;
@@ -8,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -26,13 +28,25 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ResponseBodyCache responseBodyCache;
+
     /**
      * Get all users
+     * Optionally page by id with after/limit
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        logger.info("GET /api/users - Fetching all users");
-        List<User> users = userRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) UUID after,
+                                                  @RequestParam(required = false) Integer limit) {
+        logger.info("GET /api/users - Fetching all users" + (after != null ? " after: " + after : ""));
+
+        List<User> users;
+        if (Keyset.requested(after, limit)) {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(Keyset.after(after), Keyset.limit(limit));
+        } else {
+            users = userRepository.findAll();
+        }
         return ResponseEntity.ok(users);
     }
 
@@ -40,6 +54,7 @@ public class UserController {
      * Get user by ID
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getUserById(@PathVariable UUID id) {
         logger.info("GET /api/users/{} - Fetching user by ID", id);
         return userRepository.findById(id)
@@ -53,6 +68,7 @@ public class UserController {
      * Validates email format and uniqueness
      */
     @PostMapping
+    @Transactional
     public ResponseEntity<?> createUser(@Valid @RequestBody User user) {
         logger.info("POST /api/users - Creating new user: {}", user.getEmail());
         
@@ -70,6 +86,7 @@ public class UserController {
         }
 
         User savedUser = userRepository.save(user);
+        responseBodyCache.invalidate(ResponseBodyCache.Region.USERS);
         logger.info("User created successfully with ID: {}", savedUser.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
     }
@@ -78,30 +95,37 @@ public class UserController {
      * Update existing user
      */
     @PutMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> updateUser(@PathVariable UUID id, @RequestBody User userDetails) {
         logger.info("PUT /api/users/{} - Updating user", id);
         
         return userRepository.findById(id)
                 .map(user -> {
+                    // Validate before mutating: the entity is managed, so any change
+                    // would be flushed on commit even when rejecting the request
+                    if (userDetails.getAge() != null && userDetails.getAge() < 0) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body("Age must be positive");
+                    }
+                    boolean emailChanged = userDetails.getEmail() != null
+                            && !userDetails.getEmail().equals(user.getEmail());
+                    if (emailChanged && userRepository.existsByEmail(userDetails.getEmail())) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body("Email already exists: " + userDetails.getEmail());
+                    }
+
                     if (userDetails.getName() != null) {
                         user.setName(userDetails.getName());
                     }
                     if (userDetails.getAge() != null) {
-                        if (userDetails.getAge() < 0) {
-                            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                    .body("Age must be positive");
-                        }
                         user.setAge(userDetails.getAge());
                     }
-                    if (userDetails.getEmail() != null && !userDetails.getEmail().equals(user.getEmail())) {
-                        if (userRepository.existsByEmail(userDetails.getEmail())) {
-                            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                    .body("Email already exists: " + userDetails.getEmail());
-                        }
+                    if (emailChanged) {
                         user.setEmail(userDetails.getEmail());
                     }
-                    
+
                     User updatedUser = userRepository.save(user);
+                    responseBodyCache.invalidate(ResponseBodyCache.Region.USERS);
                     logger.info("User updated successfully: {}", id);
                     return ResponseEntity.ok(updatedUser);
                 })
@@ -113,12 +137,14 @@ public class UserController {
      * Delete user
      */
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<?> deleteUser(@PathVariable UUID id) {
         logger.info("DELETE /api/users/{} - Deleting user", id);
         
         return userRepository.findById(id)
                 .map(user -> {
                     userRepository.delete(user);
+                    responseBodyCache.invalidate(ResponseBodyCache.Region.USERS);
                     logger.info("User deleted successfully: {}", id);
                     return ResponseEntity.noContent().build();
                 })
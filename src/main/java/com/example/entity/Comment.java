@@ -1,8 +1,10 @@
 package com.example.entity;
 
+import com.example.id.GeneratedUuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -15,10 +17,11 @@ import java.util.UUID;
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuidV7
     private UUID id;
 
     @NotBlank(message = "Content is required")
+    @Size(max = 1000, message = "Content must be at most 1000 characters")
     @Column(nullable = false, length = 1000)
     private String content;
 
@@ -0,0 +1,19 @@
+package com.example.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks an entity id to be assigned a time-ordered {@link UuidV7} on insert
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface GeneratedUuidV7 {
+}
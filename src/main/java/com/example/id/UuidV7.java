@@ -0,0 +1,57 @@
+package com.example.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 values (RFC 9562)
+ * Layout: 48-bit Unix timestamp in milliseconds, 4-bit version, 12-bit
+ * sequence counter, 2-bit variant and 62 random bits. The counter keeps ids
+ * generated in the same millisecond strictly increasing, so new rows are
+ * always appended at the right edge of the primary key index.
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+
+    /** Last issued timestamp and counter, packed as (millis << 12) | counter */
+    private static final AtomicLong lastState = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    /**
+     * Next id; strictly greater than every id previously returned by this JVM
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            // A counter overflow carries into the timestamp, which keeps order
+            next = Math.max(now, state + 1);
+        } while (!lastState.compareAndSet(state, next));
+        return of(next >>> COUNTER_BITS, (int) (next & 0xFFF), ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Build a version 7 id from its parts
+     */
+    public static UUID of(long epochMillis, int counter, long randomBits) {
+        long msb = (epochMillis << 16) | 0x7000L | (counter & 0xFFF);
+        long lsb = (randomBits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Creation time encoded in a version 7 id, in Unix milliseconds
+     */
+    public static long timestamp(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + id);
+        }
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate id generator backing {@link GeneratedUuidV7}
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    public UuidV7Generator(GeneratedUuidV7 config, Member idMember,
+                           CustomIdGeneratorCreationContext creationContext) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        return UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
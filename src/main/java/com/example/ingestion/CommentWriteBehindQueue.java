@@ -0,0 +1,473 @@
+package com.example.ingestion;
+
+import com.example.cache.ParentListCache;
+import com.example.entity.Comment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind ingestion of new comments
+ * Accepted comments are appended to a local write-ahead log, put on a bounded
+ * lock-free queue and inserted by a background writer in JDBC batches. The
+ * writer flushes at least every max-flush-interval, so a comment becomes
+ * visible within that bound. WAL segments are deleted once every comment in
+ * them is in the database, and any left over after a crash are replayed on
+ * startup. Comments the database rejects outright (constraint violations) are
+ * moved to a dead-letter file next to the WAL instead of blocking the queue.
+ */
+@Component
+@ConditionalOnProperty(name = "app.comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentWriteBehindQueue.class);
+
+    private static final String INSERT_COMMENT =
+            "INSERT INTO comments (id, content, post_id, user_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SEGMENT_PREFIX = "comments-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String DEAD_LETTER_FILE = "dead-letters.jsonl";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ParentListCache<Comment> commentsByPostCache;
+
+    @Value("${app.comments.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.comments.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.comments.write-behind.max-flush-interval-ms:100}")
+    private long maxFlushIntervalMs;
+
+    @Value("${app.comments.write-behind.wal-dir:${java.io.tmpdir}/releason-demo-wal}")
+    private String walDir;
+
+    @Value("${app.comments.write-behind.fsync:true}")
+    private boolean fsync;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Guards the active WAL segment; appends and enqueues happen together under it */
+    private final Object walLock = new Object();
+
+    /**
+     * Serializes fsyncs. Appenders wait here after releasing walLock, so one
+     * force covers every append made while the previous one ran (group commit).
+     * Taken before walLock when both are needed.
+     */
+    private final Object syncLock = new Object();
+    private long syncedSeq = -1;
+    private FileChannel activeSegment;
+    private Path activeSegmentPath;
+    private long activeSegmentMaxSeq;
+    private long nextSeq;
+
+    /** Sealed segments, oldest first; only touched by the writer thread */
+    private final Deque<Segment> sealedSegments = new ArrayDeque<>();
+
+    /** Lowest seq left unwritten; checkpoints never pass it. Writer thread only */
+    private long firstUnwrittenSeq = Long.MAX_VALUE;
+
+    private final AtomicLong deadLetters = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Accept a validated comment with an assigned id
+     * The comment is durable in the WAL when this returns true; false means
+     * the queue is full and the caller should shed load. Concurrent callers
+     * share one fsync instead of queuing behind one each.
+     */
+    public boolean offer(Comment comment) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+
+        long seq;
+        try {
+            byte[] line = (objectMapper.writeValueAsString(comment) + "\n").getBytes(StandardCharsets.UTF_8);
+            synchronized (walLock) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    activeSegment.write(buffer);
+                }
+                activeSegmentMaxSeq = nextSeq;
+                seq = nextSeq++;
+                queue.offer(new Entry(seq, comment));
+            }
+        } catch (IOException e) {
+            size.decrementAndGet();
+            throw new UncheckedIOException("Failed to append comment to write-ahead log", e);
+        }
+
+        if (fsync) {
+            try {
+                awaitDurable(seq);
+            } catch (IOException e) {
+                // Already queued, so the comment is still inserted; only its durability is unknown
+                throw new UncheckedIOException("Failed to sync write-ahead log", e);
+            }
+        }
+
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Block until the WAL is synced at least up to seq
+     */
+    private void awaitDurable(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            FileChannel segment;
+            long appendedSeq;
+            synchronized (walLock) {
+                segment = activeSegment;
+                appendedSeq = nextSeq - 1;
+            }
+            // Earlier segments were synced when they were sealed
+            segment.force(false);
+            syncedSeq = appendedSeq;
+        }
+    }
+
+    /**
+     * Comments accepted but not yet inserted
+     */
+    public int pending() {
+        return size.get();
+    }
+
+    /**
+     * Comments moved to the dead-letter file since startup
+     */
+    public long deadLetters() {
+        return deadLetters.get();
+    }
+
+    @Override
+    public void start() {
+        try {
+            Path dir = Paths.get(walDir);
+            Files.createDirectories(dir);
+            replay(dir);
+            synchronized (walLock) {
+                openSegment(dir);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + walDir, e);
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "comment-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("Comment write-behind enabled: capacity {}, batch size {}, max flush interval {} ms, WAL {}",
+                capacity, batchSize, maxFlushIntervalMs, walDir);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (syncLock) {
+            synchronized (walLock) {
+                try {
+                    activeSegment.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close write-ahead log segment {}", activeSegmentPath, e);
+                }
+            }
+        }
+        logger.info("Comment write-behind stopped with {} comments pending", size.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the web server accepts requests and stop only after it
+     * has stopped, so the final drain sees every accepted comment
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2;
+    }
+
+    private void writeLoop() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(maxFlushIntervalMs);
+        while (running || !queue.isEmpty()) {
+            if (size.get() < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            drain();
+        }
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            rows.add(row(entry.comment()));
+        }
+
+        int written;
+        try {
+            // One transaction, so a rejected row leaves none of the batch behind
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_COMMENT, rows));
+            written = batch.size();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write batch of {} comments, retrying one at a time", batch.size(), e);
+            written = writeEach(batch);
+        }
+
+        size.addAndGet(-written);
+        for (Entry entry : batch.subList(0, written)) {
+            commentsByPostCache.invalidate(entry.comment().getPostId());
+        }
+        if (written < batch.size()) {
+            firstUnwrittenSeq = Math.min(firstUnwrittenSeq, batch.get(written).seq());
+        }
+        checkpoint(Math.min(batch.get(batch.size() - 1).seq(), firstUnwrittenSeq - 1));
+        logger.debug("Flushed {} comments", written);
+    }
+
+    /**
+     * Insert the batch row by row, dead-lettering rows the database rejects
+     * and retrying other failures. Returns how many leading entries are done;
+     * the rest stay in the WAL when shutdown interrupts the retries.
+     */
+    private int writeEach(List<Entry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Comment comment = batch.get(i).comment();
+            while (true) {
+                try {
+                    jdbcTemplate.update(INSERT_COMMENT, row(comment));
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    // The comment was acknowledged, so keep it until the dead-letter write succeeds
+                    while (!deadLetter(comment, e)) {
+                        if (!running) {
+                            return i;
+                        }
+                        LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+                    }
+                    break;
+                } catch (RuntimeException e) {
+                    if (!running) {
+                        logger.error("Failed to write comment {} during shutdown, leaving {} comments in the WAL",
+                                comment.getId(), batch.size() - i, e);
+                        return i;
+                    }
+                    logger.error("Failed to write comment {}, retrying", comment.getId(), e);
+                    LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * Append a rejected comment to the dead-letter file; false if that failed
+     * too, in which case the comment must stay in the WAL
+     */
+    private boolean deadLetter(Comment comment, DataIntegrityViolationException cause) {
+        Path path = Paths.get(walDir, DEAD_LETTER_FILE);
+        try {
+            String line = objectMapper.writeValueAsString(
+                    new DeadLetter(LocalDateTime.now(), cause.getMostSpecificCause().toString(), comment)) + "\n";
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to dead-letter comment {} to {}", comment.getId(), path, e);
+            return false;
+        }
+        deadLetters.incrementAndGet();
+        logger.error("Comment {} rejected by the database, moved to {}: {}",
+                comment.getId(), path, cause.getMostSpecificCause().getMessage());
+        return true;
+    }
+
+    /**
+     * Seal the active segment and delete every segment whose comments have
+     * all been written
+     */
+    private void checkpoint(long flushedSeq) {
+        synchronized (syncLock) {
+            synchronized (walLock) {
+                try {
+                    if (activeSegment.position() > 0) {
+                        // Appenders may still be waiting for a sync of this segment
+                        if (fsync) {
+                            activeSegment.force(false);
+                            syncedSeq = activeSegmentMaxSeq;
+                        }
+                        activeSegment.close();
+                        sealedSegments.addLast(new Segment(activeSegmentPath, activeSegmentMaxSeq));
+                        openSegment(activeSegmentPath.getParent());
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to rotate write-ahead log segment {}", activeSegmentPath, e);
+                }
+            }
+        }
+        while (!sealedSegments.isEmpty() && sealedSegments.peekFirst().maxSeq() <= flushedSeq) {
+            Path path = sealedSegments.pollFirst().path();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete write-ahead log segment {}", path, e);
+            }
+        }
+    }
+
+    private void openSegment(Path dir) throws IOException {
+        // Names sort in creation order, which is the order replay needs
+        activeSegmentPath = dir.resolve(String.format("%s%013d-%019d%s",
+                SEGMENT_PREFIX, System.currentTimeMillis(), nextSeq, SEGMENT_SUFFIX));
+        activeSegment = FileChannel.open(activeSegmentPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Insert comments left in the WAL by a previous run that stopped before
+     * flushing them; comments already in the database are skipped
+     */
+    private void replay(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+
+        int replayed = 0;
+        int rejected = 0;
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Comment comment;
+                    try {
+                        comment = objectMapper.readValue(line, Comment.class);
+                    } catch (IOException e) {
+                        // A torn last line: the request was never acknowledged
+                        logger.warn("Skipping unreadable entry in {}", segment);
+                        continue;
+                    }
+                    Integer existing = jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM comments WHERE id = ?", Integer.class, comment.getId());
+                    if (existing != null && existing > 0) {
+                        continue;
+                    }
+                    try {
+                        jdbcTemplate.update(INSERT_COMMENT, row(comment));
+                        replayed++;
+                    } catch (DataIntegrityViolationException e) {
+                        if (!deadLetter(comment, e)) {
+                            throw new IOException("Cannot replay or dead-letter comment " + comment.getId(), e);
+                        }
+                        rejected++;
+                    }
+                }
+            }
+            Files.delete(segment);
+        }
+        if (!segments.isEmpty()) {
+            logger.info("Replayed {} comments from {} write-ahead log segments, {} dead-lettered",
+                    replayed, segments.size(), rejected);
+        }
+    }
+
+    private static Object[] row(Comment comment) {
+        return new Object[]{comment.getId(), comment.getContent(), comment.getPostId(),
+                comment.getUserId(), Timestamp.valueOf(comment.getCreatedAt())};
+    }
+
+    private record Entry(long seq, Comment comment) {
+    }
+
+    private record Segment(Path path, long maxSeq) {
+    }
+
+    private record DeadLetter(LocalDateTime rejectedAt, String error, Comment comment) {
+    }
+}
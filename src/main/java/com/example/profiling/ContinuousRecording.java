@@ -0,0 +1,91 @@
+package com.example.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Always-on Java Flight Recorder recording with rolling retention
+ * Uses the JDK "default" settings (about 1% overhead) plus the custom
+ * controller and repository events, keeping at most max-age / max-size of
+ * data on disk. {@link #dump} extracts a recent slice without stopping it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class ContinuousRecording {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuousRecording.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${app.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${app.jfr.dump-dir:${java.io.tmpdir}/releason-demo-jfr}")
+    private String dumpDir;
+
+    private Recording recording;
+
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName("releason-demo-continuous");
+        recording.enable(ControllerInvocationEvent.class).withoutThreshold();
+        recording.enable(RepositoryInvocationEvent.class).withoutThreshold();
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.start();
+        logger.info("Continuous JFR recording started: max age {} min, max size {} MB",
+                maxAgeMinutes, maxSizeMb);
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    /**
+     * Write the last minutes of the recording to a new .jfr file
+     * A running recording cannot be read, so this reads from a stopped copy;
+     * JFR stores data in chunks, so the file may start somewhat earlier.
+     */
+    public Path dump(long minutes) throws IOException {
+        Path dir = Paths.get(dumpDir);
+        Files.createDirectories(dir);
+        Instant now = Instant.now();
+        Path target = dir.resolve("releason-demo-" + FILE_TIMESTAMP.format(now) + "-" + minutes + "m.jfr");
+
+        try (Recording copy = recording.copy(true);
+             InputStream in = copy.getStream(now.minus(Duration.ofMinutes(minutes)), now)) {
+            if (in == null) {
+                throw new IOException("No JFR data recorded in the last " + minutes + " minutes");
+            }
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.info("Dumped last {} minutes of JFR recording to {}", minutes, target);
+        return target;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one HTTP request from filter entry to response
+ */
+@Name("com.example.ControllerInvocation")
+@Label("Controller Invocation")
+@Category({"Releason Demo", "HTTP"})
+@Description("HTTP request handled by a REST controller")
+@StackTrace(false)
+public class ControllerInvocationEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Matched URI template, or the raw path when no handler matched")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("Path Variables")
+    String pathVariables;
+
+    @Label("Query")
+    String query;
+}
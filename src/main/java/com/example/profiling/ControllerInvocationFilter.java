@@ -0,0 +1,45 @@
+package com.example.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link ControllerInvocationEvent} for every request
+ * Runs ahead of the other application filters so cached responses are
+ * recorded too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ControllerInvocationFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        ControllerInvocationEvent event = new ControllerInvocationEvent();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+                event.status = response.getStatus();
+                event.pathVariables = variables != null ? variables.toString() : null;
+                event.query = request.getQueryString();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.profiling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-request tally of SQL statements and database time
+ * Bound to the request thread by {@link QueryAccountingFilter}; statements
+ * are reported by Hibernate's statement inspector and their execution time
+ * by {@link StatementTimingListener}. Statements are counted by their SQL text, which
+ * Hibernate renders with ? placeholders, so the same query with different
+ * parameters (the N+1 pattern) shows up as one repeated statement.
+ */
+public final class QueryAccounting {
+
+    private static final ThreadLocal<QueryAccounting> current = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int statementCount;
+    private long dbNanos;
+
+    private QueryAccounting() {
+    }
+
+    static QueryAccounting begin() {
+        QueryAccounting accounting = new QueryAccounting();
+        current.set(accounting);
+        return accounting;
+    }
+
+    static void end() {
+        current.remove();
+    }
+
+    /**
+     * Hibernate StatementInspector hook; returns the SQL unchanged
+     */
+    static String onStatement(String sql) {
+        QueryAccounting accounting = current.get();
+        if (accounting != null) {
+            accounting.statementCount++;
+            accounting.statements.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    static void onStatementExecuted(long nanos) {
+        QueryAccounting accounting = current.get();
+        if (accounting != null) {
+            accounting.dbNanos += nanos;
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getDbTimeMillis() {
+        return dbNanos / 1_000_000;
+    }
+
+    /**
+     * The statement executed most often in this request, or null if none
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : statements.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts statements and database time of every request and flags requests
+ * that run too many statements, spend too long in the database or repeat
+ * the same statement (likely N+1)
+ * Flagged requests are logged as one key=value line at WARN, others at
+ * DEBUG. With expose-headers on (test mode) the tallies are also returned
+ * as X-Query-* response headers; the body is then buffered so the headers
+ * can be added after the handler has run.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 110)
+public class QueryAccountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryAccountingFilter.class);
+
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time-Ms";
+    public static final String REPEATS_HEADER = "X-Query-Max-Repeats";
+    public static final String FLAGS_HEADER = "X-Query-Flags";
+
+    @Value("${app.query-accounting.max-statements:10}")
+    private int maxStatements;
+
+    @Value("${app.query-accounting.max-db-time-ms:200}")
+    private long maxDbTimeMs;
+
+    @Value("${app.query-accounting.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Value("${app.query-accounting.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        QueryAccounting accounting = QueryAccounting.begin();
+        ContentCachingResponseWrapper wrapper = exposeHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            chain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            QueryAccounting.end();
+            List<String> flags = flags(accounting);
+            Map.Entry<String, Integer> repeated = accounting.getMostRepeatedStatement();
+            int maxRepeats = repeated != null ? repeated.getValue() : 0;
+
+            if (wrapper != null) {
+                wrapper.setHeader(COUNT_HEADER, String.valueOf(accounting.getStatementCount()));
+                wrapper.setHeader(TIME_HEADER, String.valueOf(accounting.getDbTimeMillis()));
+                wrapper.setHeader(REPEATS_HEADER, String.valueOf(maxRepeats));
+                wrapper.setHeader(FLAGS_HEADER, flags.isEmpty() ? "none" : String.join(",", flags));
+                wrapper.copyBodyToResponse();
+            }
+
+            if (!flags.isEmpty() || logger.isDebugEnabled()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String line = String.format(
+                        "query-accounting method=%s endpoint=%s status=%d statements=%d dbTimeMs=%d"
+                                + " maxRepeats=%d flags=%s repeatedStatement=\"%s\"",
+                        request.getMethod(), pattern != null ? pattern : request.getRequestURI(),
+                        response.getStatus(), accounting.getStatementCount(), accounting.getDbTimeMillis(),
+                        maxRepeats, flags.isEmpty() ? "none" : String.join(",", flags),
+                        maxRepeats > 1 ? repeated.getKey() : "");
+                if (flags.isEmpty()) {
+                    logger.debug(line);
+                } else {
+                    logger.warn(line);
+                }
+            }
+        }
+    }
+
+    private List<String> flags(QueryAccounting accounting) {
+        List<String> flags = new ArrayList<>();
+        if (accounting.getStatementCount() > maxStatements) {
+            flags.add("TOO_MANY_STATEMENTS");
+        }
+        if (accounting.getDbTimeMillis() > maxDbTimeMs) {
+            flags.add("SLOW");
+        }
+        Map.Entry<String, Integer> repeated = accounting.getMostRepeatedStatement();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            flags.add("N_PLUS_ONE");
+        }
+        return flags;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.profiling;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Registers the {@link QueryAccounting} statement inspector and the
+ * {@link StatementTimingListener} with Hibernate
+ */
+@Component
+public class QueryAccountingHibernateCustomizer implements HibernatePropertiesCustomizer {
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                (StatementInspector) QueryAccounting::onStatement);
+        // Hibernate instantiates the listener itself, once per session
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                StatementTimingListener.class.getName());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one Spring Data repository call, including the SQL it runs
+ */
+@Name("com.example.RepositoryInvocation")
+@Label("Repository Invocation")
+@Category({"Releason Demo", "Database"})
+@Description("Spring Data repository method call")
+@StackTrace(false)
+public class RepositoryInvocationEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Successful")
+    boolean successful;
+}
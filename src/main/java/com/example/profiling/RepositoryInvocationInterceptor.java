@@ -0,0 +1,36 @@
+package com.example.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Emits a {@link RepositoryInvocationEvent} around each repository method
+ */
+class RepositoryInvocationInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    RepositoryInvocationInterceptor(String repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryInvocationEvent event = new RepositoryInvocationEvent();
+        event.begin();
+        boolean successful = false;
+        try {
+            Object result = invocation.proceed();
+            successful = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.method = invocation.getMethod().getName();
+                event.successful = successful;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.profiling;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds {@link RepositoryInvocationInterceptor} to every Spring Data repository
+ */
+@Component
+public class RepositoryProfilingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                            proxyFactory.addAdvice(new RepositoryInvocationInterceptor(
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+}
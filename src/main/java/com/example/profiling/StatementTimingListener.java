@@ -0,0 +1,36 @@
+package com.example.profiling;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener that adds the execution time of every JDBC
+ * statement and batch to the request's {@link QueryAccounting}
+ * Timing at this level also covers statements Hibernate runs outside any
+ * repository call, such as the flush when a transaction commits.
+ * Hibernate creates one instance per session, which is used by one thread.
+ */
+public class StatementTimingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryAccounting.onStatementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryAccounting.onStatementExecuted(System.nanoTime() - batchStart);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.repository;
 
 import com.example.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,4 +27,15 @@ public interface CommentRepository extends JpaRepository<Comment, UUID> {
      * Find all comments by a specific user
      */
     List<Comment> findByUserId(UUID userId);
+    
+    /**
+     * Find the next page of comments after the given id, in id order
+     */
+    List<Comment> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+    
+    /**
+     * Post id and creation time of every comment created after the given time
+     */
+    @Query("SELECT c.postId, c.createdAt FROM Comment c WHERE c.createdAt > :since")
+    List<Object[]> findActivitySince(@Param("since") LocalDateTime since);
 }
@@ -1,6 +1,7 @@
 package com.example.repository;
 
 import com.example.entity.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +19,9 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
      * Find all posts by a specific user
      */
     List<Post> findByUserId(UUID userId);
+    
+    /**
+     * Find the next page of posts after the given id, in id order
+     */
+    List<Post> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
@@ -1,9 +1,11 @@
 package com.example.repository;
 
 import com.example.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,4 +25,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * Check if email already exists
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Find the next page of users after the given id, in id order
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
 }
@@ -0,0 +1,9 @@
+package com.example.trending;
+
+import java.util.UUID;
+
+/**
+ * A post and its number of comments within a trending window
+ */
+public record TrendingPost(UUID postId, long comments) {
+}
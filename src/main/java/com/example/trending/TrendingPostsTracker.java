@@ -0,0 +1,383 @@
+package com.example.trending;
+
+import com.example.repository.CommentRepository;
+import com.example.support.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory comment activity per post over sliding time windows
+ * Comments are counted in one-minute buckets of striped LongAdder counters.
+ * Each window keeps a running total per post, updated on every comment
+ * and reduced as buckets age out of the window, and a top-K snapshot that
+ * is patched incrementally and rebuilt when buckets expire. Reading the
+ * trending posts of a window just returns the snapshot. Counts are rebuilt
+ * from the comments table at startup. Updates racing with the expiry of
+ * their own minute may be counted approximately.
+ */
+@Component
+public class TrendingPostsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingPostsTracker.class);
+
+    /** Extra buckets so a late expiry tick never finds its bucket already reused */
+    private static final int SPARE_BUCKETS = 10;
+
+    private static final Comparator<TrendingPost> BY_COMMENTS_DESC =
+            Comparator.comparingLong(TrendingPost::comments).reversed();
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${app.trending.windows:15m,1h,24h}")
+    private List<String> windowSpecs;
+
+    @Value("${app.trending.top-k:10}")
+    private int topK;
+
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+    private AtomicReferenceArray<Bucket> buckets;
+    private ScheduledExecutorService ticker;
+    private volatile boolean rebuilt;
+
+    @PostConstruct
+    public void start() {
+        if (topK < 1) {
+            throw new IllegalArgumentException("app.trending.top-k must be at least 1");
+        }
+        long maxMinutes = 0;
+        for (String spec : windowSpecs) {
+            Window window = new Window(spec.trim(), parseMinutes(spec.trim()));
+            windows.put(window.name, window);
+            maxMinutes = Math.max(maxMinutes, window.minutes);
+        }
+        buckets = new AtomicReferenceArray<>((int) maxMinutes + SPARE_BUCKETS);
+
+        long now = currentMinute();
+        for (Window window : windows.values()) {
+            window.expiredThrough = now - window.minutes;
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expire, 5, 5, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Rebuild counts from comments already in the database
+     * Runs before the JIT warm-up and other ready listeners. Live updates
+     * are applied from before the query starts, so a comment committed while
+     * it runs is never lost but may be counted twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long maxMinutes = buckets.length() - SPARE_BUCKETS;
+        LocalDateTime since = LocalDateTime.now().minusMinutes(maxMinutes);
+        rebuilt = true;
+        List<Object[]> activity = commentRepository.findActivitySince(since);
+        for (Object[] row : activity) {
+            apply((UUID) row[0], (LocalDateTime) row[1], 1);
+        }
+        for (Window window : windows.values()) {
+            window.rebuildTop(topK);
+        }
+        logger.info("Trending counters rebuilt from {} comments in {} ms",
+                activity.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean supports(String window) {
+        return windows.containsKey(window);
+    }
+
+    public List<String> getWindows() {
+        return List.copyOf(windows.keySet());
+    }
+
+    /**
+     * Most commented posts of the window, at most limit of them
+     */
+    public List<TrendingPost> top(String window, int limit) {
+        TrendingPost[] snapshot = windows.get(window).top;
+        return List.of(Arrays.copyOf(snapshot, Math.min(Math.max(limit, 0), snapshot.length)));
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Count a created (delta 1) or deleted (delta -1) comment once the
+     * current transaction commits, or right away when there is none
+     */
+    public void record(UUID postId, LocalDateTime commentCreatedAt, int delta) {
+        AfterCommit.run(() -> recordNow(postId, commentCreatedAt, delta));
+    }
+
+    /**
+     * Drop a deleted post from every window once the current transaction
+     * commits, or right away when there is none
+     */
+    public void forget(UUID postId) {
+        AfterCommit.run(() -> forgetNow(postId));
+    }
+
+    private void forgetNow(UUID postId) {
+        // Also clear its bucket counts, or expiring them would subtract from a missing total
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.counts.remove(postId);
+            }
+        }
+        for (Window window : windows.values()) {
+            window.totals.remove(postId);
+            // Its slot may belong to a post outside the snapshot
+            if (Window.contains(window.top, postId)) {
+                window.rebuildTop(topK);
+            }
+        }
+    }
+
+    private void recordNow(UUID postId, LocalDateTime commentCreatedAt, int delta) {
+        // Until the startup rebuild starts, the database is the source of truth
+        if (!rebuilt) {
+            return;
+        }
+        apply(postId, commentCreatedAt, delta);
+    }
+
+    private void apply(UUID postId, LocalDateTime commentCreatedAt, int delta) {
+        long now = currentMinute();
+        long minute = Math.min(toMinute(commentCreatedAt), now);
+        int slot = (int) Math.floorMod(minute, (long) buckets.length());
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.minute < minute) {
+            Bucket fresh = new Bucket(minute);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+        if (bucket.minute != minute) {
+            // Older than every window
+            return;
+        }
+        bucket.counts.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+
+        for (Window window : windows.values()) {
+            if (minute > window.expiredThrough) {
+                adjust(window.totals, postId, delta);
+                window.offer(postId, topK);
+            }
+        }
+    }
+
+    /**
+     * Subtract buckets that have left each window, then rebuild its top-K
+     */
+    private void expire() {
+        try {
+            long now = currentMinute();
+            for (Window window : windows.values()) {
+                boolean changed = false;
+                while (window.expiredThrough < now - window.minutes) {
+                    long minute = window.expiredThrough + 1;
+                    window.expiredThrough = minute;
+                    Bucket bucket = buckets.get((int) Math.floorMod(minute, (long) buckets.length()));
+                    if (bucket != null && bucket.minute == minute) {
+                        bucket.counts.forEach((postId, count) -> {
+                            long expired = count.sum();
+                            if (expired > 0) {
+                                adjust(window.totals, postId, -expired);
+                            }
+                        });
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    window.rebuildTop(topK);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to expire trending buckets", e);
+        }
+    }
+
+    /**
+     * Add delta to a post's total, keeping only positive totals; a decrement
+     * of a post without a total (forgotten, or counted before the rebuild)
+     * is ignored rather than stored as a negative total
+     */
+    private static void adjust(ConcurrentHashMap<UUID, Long> totals, UUID postId, long delta) {
+        if (delta > 0) {
+            totals.merge(postId, delta, Long::sum);
+        } else {
+            totals.computeIfPresent(postId, (id, total) -> total + delta > 0 ? total + delta : null);
+        }
+    }
+
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return TimeUnit.MILLISECONDS.toMinutes(time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static long parseMinutes(String spec) {
+        if (spec.length() < 2) {
+            throw new IllegalArgumentException("Invalid trending window: " + spec);
+        }
+        long amount = Long.parseLong(spec.substring(0, spec.length() - 1));
+        switch (spec.charAt(spec.length() - 1)) {
+            case 'm':
+                return amount;
+            case 'h':
+                return TimeUnit.HOURS.toMinutes(amount);
+            case 'd':
+                return TimeUnit.DAYS.toMinutes(amount);
+            default:
+                throw new IllegalArgumentException("Invalid trending window: " + spec);
+        }
+    }
+
+    /**
+     * Comment counts per post for one minute
+     */
+    private static final class Bucket {
+
+        final long minute;
+        final ConcurrentHashMap<UUID, LongAdder> counts = new ConcurrentHashMap<>();
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    /**
+     * Running totals and top-K snapshot of one sliding window
+     */
+    private static final class Window {
+
+        final String name;
+        final long minutes;
+        final ConcurrentHashMap<UUID, Long> totals = new ConcurrentHashMap<>();
+
+        /** Last minute already subtracted from the totals; written by the ticker only */
+        volatile long expiredThrough;
+
+        /** Sorted by comments, most first; replaced, never mutated */
+        volatile TrendingPost[] top = new TrendingPost[0];
+
+        Window(String name, long minutes) {
+            this.name = name;
+            this.minutes = minutes;
+        }
+
+        /**
+         * Patch the snapshot with a post's current total; posts that cannot
+         * enter the top-K return without locking. A member that drops below
+         * the K-th count may now rank behind a post outside the snapshot, so
+         * that case recomputes it from the totals instead.
+         */
+        void offer(UUID postId, int k) {
+            TrendingPost[] current = top;
+            if (current.length >= k && totalOf(postId) <= current[current.length - 1].comments()
+                    && !contains(current, postId)) {
+                return;
+            }
+            synchronized (this) {
+                // Re-read under the lock: a concurrent offer may have patched in a newer total
+                long total = totalOf(postId);
+                current = top;
+                if (current.length >= k && total < current[current.length - 1].comments()
+                        && contains(current, postId)) {
+                    rebuildTop(k);
+                    return;
+                }
+                List<TrendingPost> next = new ArrayList<>(current.length + 1);
+                for (TrendingPost post : current) {
+                    if (!post.postId().equals(postId)) {
+                        next.add(post);
+                    }
+                }
+                if (total > 0) {
+                    next.add(new TrendingPost(postId, total));
+                }
+                next.sort(BY_COMMENTS_DESC);
+                top = next.subList(0, Math.min(k, next.size())).toArray(new TrendingPost[0]);
+            }
+        }
+
+        private long totalOf(UUID postId) {
+            Long total = totals.get(postId);
+            return total != null ? total : 0;
+        }
+
+        /**
+         * Recompute the snapshot from the totals, O(n log k)
+         */
+        synchronized void rebuildTop(int k) {
+            PriorityQueue<TrendingPost> heap = new PriorityQueue<>(k + 1,
+                    Comparator.comparingLong(TrendingPost::comments));
+            totals.forEach((postId, total) -> {
+                if (total <= 0) {
+                    return;
+                }
+                heap.offer(new TrendingPost(postId, total));
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            });
+            List<TrendingPost> next = new ArrayList<>(heap);
+            next.sort(BY_COMMENTS_DESC);
+            top = next.toArray(new TrendingPost[0]);
+        }
+
+        private static boolean contains(TrendingPost[] posts, UUID postId) {
+            for (TrendingPost post : posts) {
+                if (post.postId().equals(postId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.warmup;
+
+import com.example.ingestion.CommentWriteBehindQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JIT warm-up run before the instance reports UP on /health
+ * Once the application is ready, replays the flows of the Karate features
+ * (reads of every endpoint, and create/update/delete cycles that leave no
+ * data behind) against the local server in rounds. The warm-up ends when
+ * the median latency of every endpoint has changed by at most the tolerance
+ * for stable-rounds consecutive rounds, or when max-rounds or
+ * max-duration-seconds is reached; until then /health reports WARMING_UP.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class JitWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(JitWarmup.class);
+
+    /** Collections are read in pages so warm-up cost does not grow with the dataset */
+    private static final int PAGE_SIZE = 100;
+
+    @Value("${app.warmup.iterations-per-round:100}")
+    private int iterationsPerRound;
+
+    @Value("${app.warmup.max-rounds:50}")
+    private int maxRounds;
+
+    @Value("${app.warmup.tolerance:0.10}")
+    private double tolerance;
+
+    @Value("${app.warmup.stable-rounds:2}")
+    private int stableRounds;
+
+    @Value("${app.warmup.max-duration-seconds:120}")
+    private long maxDurationSeconds;
+
+    @Autowired(required = false)
+    private CommentWriteBehindQueue writeBehindQueue;
+
+    private volatile boolean complete;
+    private volatile Map<String, Object> report = Map.of("state", "PENDING");
+
+    private RestClient client;
+    private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public Map<String, Object> getReport() {
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        int serverPort = event.getApplicationContext().getEnvironment()
+                .getProperty("local.server.port", Integer.class, 8080);
+        client = RestClient.builder().baseUrl("http://localhost:" + serverPort).build();
+
+        Thread thread = new Thread(this::run, "jit-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        logger.info("JIT warm-up started: {} iterations per round, tolerance {}, max {} rounds / {} s",
+                iterationsPerRound, tolerance, maxRounds, maxDurationSeconds);
+        report = Map.of("state", "RUNNING");
+        long start = System.nanoTime();
+        long deadline = start + maxDurationSeconds * 1_000_000_000L;
+        int rounds = 0;
+        boolean stable = false;
+        try {
+            Fixtures fixtures = fixtures();
+            while (rounds < maxRounds && !stable) {
+                int i = 0;
+                while (i < iterationsPerRound && System.nanoTime() < deadline) {
+                    iteration(fixtures);
+                    i++;
+                }
+                if (i < iterationsPerRound) {
+                    // Out of time; a partial round says nothing about stability
+                    break;
+                }
+                rounds++;
+                stable = true;
+                for (EndpointStats stats : endpoints.values()) {
+                    stable &= stats.endRound(tolerance, stableRounds);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("JIT warm-up aborted after {} rounds", rounds, e);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", "COMPLETE");
+        result.put("stable", stable);
+        result.put("rounds", rounds);
+        result.put("durationMs", durationMs);
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        endpoints.forEach((name, stats) -> perEndpoint.put(name, stats.toReport()));
+        result.put("endpoints", perEndpoint);
+        report = result;
+        complete = true;
+
+        logger.info("JIT warm-up finished in {} ms after {} rounds ({})", durationMs, rounds,
+                stable ? "latency stable" : "limit reached");
+        endpoints.forEach((name, stats) -> logger.info("  {}: {} requests, median {} us -> {} us",
+                name, stats.requests, stats.firstMedianMicros, stats.lastMedianMicros));
+    }
+
+    /**
+     * Existing rows the read flows use, like the features' response[0]
+     */
+    private Fixtures fixtures() {
+        return new Fixtures(firstId("/api/users"), firstId("/api/posts"), firstId("/api/comments"));
+    }
+
+    private String firstId(String path) {
+        List<?> page = client.get().uri(path + "?limit=1").retrieve().body(List.class);
+        return page == null || page.isEmpty() ? null : (String) ((Map<?, ?>) page.get(0)).get("id");
+    }
+
+    /**
+     * One pass over the request mix of users.feature, posts.feature and comments.feature
+     */
+    private void iteration(Fixtures fixtures) {
+        call("GET /api/users", HttpMethod.GET, "/api/users?limit=" + PAGE_SIZE, null);
+        call("GET /api/posts", HttpMethod.GET, "/api/posts?limit=" + PAGE_SIZE, null);
+        call("GET /api/comments", HttpMethod.GET, "/api/comments?limit=" + PAGE_SIZE, null);
+        if (fixtures.userId() != null) {
+            call("GET /api/users/{id}", HttpMethod.GET, "/api/users/" + fixtures.userId(), null);
+            call("GET /api/posts?userId", HttpMethod.GET, "/api/posts?userId=" + fixtures.userId(), null);
+        }
+        if (fixtures.postId() != null) {
+            call("GET /api/posts/{id}", HttpMethod.GET, "/api/posts/" + fixtures.postId(), null);
+            call("GET /api/comments?postId", HttpMethod.GET, "/api/comments?postId=" + fixtures.postId(), null);
+        }
+        if (fixtures.commentId() != null) {
+            call("GET /api/comments/{id}", HttpMethod.GET, "/api/comments/" + fixtures.commentId(), null);
+        }
+
+        String email = "warmup-" + UUID.randomUUID() + "@warmup.example.com";
+        String userId = call("POST /api/users", HttpMethod.POST, "/api/users",
+                Map.of("email", email, "name", "Warm Up", "age", 30));
+        if (userId != null) {
+            call("PUT /api/users/{id}", HttpMethod.PUT, "/api/users/" + userId, Map.of("name", "Warmed Up"));
+
+            String postId = call("POST /api/posts", HttpMethod.POST, "/api/posts",
+                    Map.of("title", "Warm-up post", "content", "Warm-up content", "userId", userId));
+            if (postId != null) {
+                call("PUT /api/posts/{id}", HttpMethod.PUT, "/api/posts/" + postId, Map.of("title", "Warmed up"));
+                // Write-behind comments cannot be deleted until flushed, so they are skipped
+                if (writeBehindQueue == null) {
+                    String commentId = call("POST /api/comments", HttpMethod.POST, "/api/comments",
+                            Map.of("content", "Warm-up comment", "postId", postId, "userId", userId));
+                    if (commentId != null) {
+                        call("DELETE /api/comments/{id}", HttpMethod.DELETE, "/api/comments/" + commentId, null);
+                    }
+                }
+                call("DELETE /api/posts/{id}", HttpMethod.DELETE, "/api/posts/" + postId, null);
+            }
+            call("DELETE /api/users/{id}", HttpMethod.DELETE, "/api/users/" + userId, null);
+        }
+    }
+
+    /**
+     * Time one request; returns the id of a created resource, if any
+     */
+    private String call(String endpoint, HttpMethod method, String uri, Object body) {
+        RestClient.RequestBodySpec request = client.method(method).uri(uri).accept(MediaType.APPLICATION_JSON);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        long start = System.nanoTime();
+        String id = request.exchange((req, res) -> {
+            if (method == HttpMethod.POST && res.getStatusCode().is2xxSuccessful()) {
+                Map<?, ?> created = res.bodyTo(Map.class);
+                return created != null ? (String) created.get("id") : null;
+            }
+            res.getBody().readAllBytes();
+            return null;
+        });
+        endpoints.computeIfAbsent(endpoint, name -> new EndpointStats(iterationsPerRound))
+                .record(System.nanoTime() - start);
+        return id;
+    }
+
+    private record Fixtures(String userId, String postId, String commentId) {
+    }
+
+    /**
+     * Latencies of one endpoint in the current round and the medians so far
+     */
+    private static class EndpointStats {
+
+        private long[] latencies;
+        private int count;
+        private long requests;
+        private long previousMedian = -1;
+        private int stableStreak;
+        private boolean stable;
+        private long firstMedianMicros = -1;
+        private long lastMedianMicros;
+
+        EndpointStats(int capacity) {
+            latencies = new long[capacity];
+        }
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            requests++;
+        }
+
+        /**
+         * Close the round; true once the median has been stable long enough
+         */
+        boolean endRound(double tolerance, int stableRounds) {
+            if (count == 0) {
+                return true;
+            }
+            Arrays.sort(latencies, 0, count);
+            long median = latencies[count / 2];
+            count = 0;
+
+            lastMedianMicros = median / 1000;
+            if (firstMedianMicros < 0) {
+                firstMedianMicros = lastMedianMicros;
+            }
+            if (previousMedian > 0 && Math.abs(median - previousMedian) <= tolerance * previousMedian) {
+                stableStreak++;
+            } else {
+                stableStreak = 0;
+            }
+            previousMedian = median;
+            stable = stableStreak >= stableRounds;
+            return stable;
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("requests", requests);
+            report.put("firstMedianMicros", firstMedianMicros);
+            report.put("lastMedianMicros", lastMedianMicros);
+            report.put("stable", stable);
+            return report;
+        }
+    }
+}
@@ -27,4 +27,9 @@ public class KarateTest {
     Karate testComments() {
         return Karate.run("classpath:features/comments.feature").relativeTo(getClass());
     }
+
+    @Karate.Test
+    Karate testHealth() {
+        return Karate.run("classpath:features/health.feature").relativeTo(getClass());
+    }
 }
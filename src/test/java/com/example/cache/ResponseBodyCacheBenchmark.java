@@ -0,0 +1,124 @@
+package com.example.cache;
+
+import com.example.entity.Post;
+import com.example.id.UuidV7;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocation and throughput of serving a GET /api/posts body three ways:
+ * encoding the entities with Jackson on every request, writing a cached heap
+ * byte[], and writing a cached direct ByteBuffer through a channel (the
+ * previous ResponseBodyCache design)
+ * Not a unit test; run it after test-compile with
+ * java -cp target/classes:target/test-classes:$(cat cp.txt) com.example.cache.ResponseBodyCacheBenchmark
+ * where cp.txt comes from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt.
+ */
+public class ResponseBodyCacheBenchmark {
+
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        for (int postCount : new int[]{10, 100, 1000}) {
+            List<Post> posts = posts(postCount);
+            byte[] heap = mapper.writeValueAsBytes(posts);
+            ByteBuffer direct = ByteBuffer.allocateDirect(heap.length);
+            direct.put(heap).flip();
+            ByteBuffer cached = direct.asReadOnlyBuffer();
+            ServletOutput out = new ServletOutput();
+
+            System.out.printf("%d posts, %d byte body%n", postCount, heap.length);
+            run("jackson encode", () -> mapper.writeValue(out, posts));
+            run("cached heap byte[]", () -> out.write(heap));
+            run("cached direct buffer", () -> Channels.newChannel(out).write(cached.duplicate()));
+        }
+    }
+
+    private static void run(String name, Body body) throws IOException {
+        measure(body, WARMUP_NANOS);
+        long[] result = measure(body, MEASURE_NANOS);
+        long ops = result[0];
+        System.out.printf("  %-22s %,12.0f ops/s %,10d B/op%n",
+                name, ops * 1e9 / MEASURE_NANOS, result[1] / ops);
+    }
+
+    /**
+     * Operations completed and bytes allocated by this thread in the given time
+     */
+    private static long[] measure(Body body, long nanos) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long deadline = System.nanoTime() + nanos;
+        long ops = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                body.write();
+            }
+            ops += 100;
+        }
+        return new long[]{ops, threads.getThreadAllocatedBytes(threadId) - allocatedBefore};
+    }
+
+    private static List<Post> posts(int count) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Post post = new Post("Post " + i, "Content of post " + i + " with a realistic length of text", UuidV7.next());
+            post.setId(UuidV7.next());
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private interface Body {
+        void write() throws IOException;
+    }
+
+    /**
+     * Stands in for the servlet output stream: copies into a reused 8 KB
+     * buffer, as Tomcat's response buffer does, and discards it when full
+     */
+    private static final class ServletOutput extends OutputStream {
+
+        private final byte[] buffer = new byte[8192];
+        private int position;
+
+        @Override
+        public void write(int b) {
+            if (position == buffer.length) {
+                position = 0;
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (position == buffer.length) {
+                    position = 0;
+                }
+                int chunk = Math.min(length, buffer.length - position);
+                System.arraycopy(bytes, offset, buffer, position, chunk);
+                position += chunk;
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+    }
+}
@@ -14,8 +14,9 @@ Feature: Comment Management API
     And match response[0].createdAt == '#present'
 
   Scenario: Get comment by ID
-    # First get all comments to get a valid ID
+    # First get one comment to get a valid ID
     Given path '/api/comments'
+    And param limit = 1
     When method GET
     Then status 200
     And def commentId = response[0].id
@@ -30,11 +31,13 @@ Feature: Comment Management API
   Scenario: Create comment on post
     # First get a post and user
     Given path '/api/posts'
+    And param limit = 1
     When method GET
     Then status 200
     And def postId = response[0].id
     
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id
@@ -49,11 +52,13 @@ Feature: Comment Management API
   Scenario: Delete comment
     # First create a comment
     Given path '/api/posts'
+    And param limit = 1
     When method GET
     Then status 200
     And def postId = response[0].id
     
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id
@@ -73,3 +78,105 @@ Feature: Comment Management API
     Given path '/api/comments', commentId
     When method GET
     Then status 404
+
+  Scenario: Comments of a post reflect new comments
+    Given path '/api/posts'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def postId = response[0].id
+
+    Given path '/api/users'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def userId = response[0].id
+
+    # Read twice so the second read can be served from the cache
+    Given path '/api/comments'
+    And param postId = postId
+    When method GET
+    Then status 200
+    And def before = response
+
+    Given path '/api/comments'
+    And param postId = postId
+    When method GET
+    Then status 200
+    And match response == before
+
+    Given path '/api/comments'
+    And request { content: 'Fresh comment', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 201
+    And def commentId = response.id
+
+    Given path '/api/comments'
+    And param postId = postId
+    When method GET
+    Then status 200
+    And match response[*].id contains commentId
+
+  Scenario: Get comment by ID runs a single query
+    Given path '/api/comments'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def commentId = response[0].id
+
+    Given path '/api/comments', commentId
+    When method GET
+    Then status 200
+    And match header X-Query-Count == '1'
+    And match header X-Query-Max-Repeats == '1'
+    And match header X-Query-Flags == 'none'
+
+  Scenario: Comment longer than the content column is rejected
+    Given path '/api/posts'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def postId = response[0].id
+
+    Given path '/api/users'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def userId = response[0].id
+
+    * def content = 'x'.repeat(1001)
+    Given path '/api/comments'
+    And request { content: '#(content)', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 400
+
+  Scenario: Write-behind comment becomes readable after the flush
+    # Only runs against an app started with app.comments.write-behind.enabled=true
+    Given path '/health'
+    When method GET
+    Then status 200
+    * if (!response.commentWriteBehind) karate.abort()
+
+    Given path '/api/posts'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def postId = response[0].id
+
+    Given path '/api/users'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def userId = response[0].id
+
+    Given path '/api/comments'
+    And request { content: 'Queued comment', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 202
+    And def commentId = response.id
+
+    * configure retry = { count: 20, interval: 100 }
+    Given path '/api/comments', commentId
+    And retry until responseStatus == 200
+    When method GET
+    Then match response.content == 'Queued comment'
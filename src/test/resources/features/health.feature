@@ -0,0 +1,59 @@
+Feature: Health and Infrastructure
+  Test suite for the health endpoint and data source routing
+
+  Background:
+    * url 'http://localhost:8080'
+    * header Accept = 'application/json'
+
+  Scenario: Health check reports UP
+    Given path '/health'
+    When method GET
+    Then status 200
+    And match response contains { status: 'UP', service: 'releason-karate-demo' }
+
+  Scenario: Read requests are routed to the replica pool
+    Given path '/health'
+    When method GET
+    Then status 200
+    And def before = response.dataSource.replica
+
+    # Comments are not in the response body cache, so this always reaches the database
+    Given path '/api/comments'
+    And param limit = 1
+    When method GET
+    Then status 200
+
+    Given path '/health'
+    When method GET
+    Then status 200
+    And assert response.dataSource.replica > before
+
+  Scenario: Dump recent JFR recording
+    Given path '/admin/jfr/dump'
+    And param minutes = 1
+    When method POST
+    Then status 200
+    And match response contains { file: '#regex .*\\.jfr', bytes: '#number', minutes: 1 }
+
+  Scenario: Reject invalid JFR dump window
+    Given path '/admin/jfr/dump'
+    And param minutes = 0
+    When method POST
+    Then status 400
+
+  Scenario: Cache statistics count hits
+    Given path '/api/posts'
+    And param limit = 10
+    When method GET
+    Then status 200
+
+    Given path '/api/posts'
+    And param limit = 10
+    When method GET
+    Then status 200
+
+    Given path '/admin/cache'
+    When method GET
+    Then status 200
+    And match response contains { responseBodies: '#object', postsByUser: '#object', commentsByPost: '#object' }
+    And assert response.responseBodies.hits > 0
@@ -14,8 +14,9 @@ Feature: Post Management API
     And match response[0].createdAt == '#present'
 
   Scenario: Get post by ID
-    # First get all posts to get a valid ID
+    # First get one post to get a valid ID
     Given path '/api/posts'
+    And param limit = 1
     When method GET
     Then status 200
     And def postId = response[0].id
@@ -30,6 +31,7 @@ Feature: Post Management API
   Scenario: Get posts by user
     # First get a user
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id
@@ -44,6 +46,7 @@ Feature: Post Management API
   Scenario: Create new post
     # First get a user
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id
@@ -58,6 +61,7 @@ Feature: Post Management API
   Scenario: Update post
     # First get a post
     Given path '/api/posts'
+    And param limit = 1
     When method GET
     Then status 200
     And def postId = response[0].id
@@ -69,3 +73,111 @@ Feature: Post Management API
     Then status 200
     And match response.title == 'Updated Title'
     And match response.content == 'Updated content'
+
+  Scenario: Page through posts using the id as keyset cursor
+    Given path '/api/posts'
+    And param limit = 2
+    When method GET
+    Then status 200
+    And match response == '#[2]'
+    And def lastId = response[1].id
+
+    Given path '/api/posts'
+    And param after = lastId
+    And param limit = 2
+    When method GET
+    Then status 200
+    And match response == '#[_ <= 2]'
+    And match response[*].id !contains lastId
+
+  Scenario: Post by ID reflects updates after being read
+    Given path '/api/posts'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def postId = response[0].id
+
+    Given path '/api/posts', postId
+    When method GET
+    Then status 200
+
+    Given path '/api/posts', postId
+    And request { title: 'Freshly Updated Title' }
+    When method PUT
+    Then status 200
+
+    Given path '/api/posts', postId
+    When method GET
+    Then status 200
+    And match response.title == 'Freshly Updated Title'
+
+  Scenario: Trending posts include a post that was just commented on
+    Given path '/api/posts'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def postId = response[0].id
+
+    Given path '/api/users'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def userId = response[0].id
+
+    Given path '/api/comments'
+    And request { content: 'Trending comment', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 201
+
+    Given path '/api/posts/trending'
+    And param window = '1h'
+    When method GET
+    Then status 200
+    And match each response == { postId: '#uuid', comments: '#number' }
+    And match response[*].postId contains postId
+
+  Scenario: Trending posts reject unsupported windows
+    Given path '/api/posts/trending'
+    And param window = '2w'
+    When method GET
+    Then status 400
+
+  Scenario: Deleted posts and their comments leave the trending list
+    Given path '/api/users'
+    And param limit = 1
+    When method GET
+    Then status 200
+    And def userId = response[0].id
+
+    Given path '/api/posts'
+    And request { title: 'Short-lived post', content: 'Deleted right after its comments', userId: '#(userId)' }
+    When method POST
+    Then status 201
+    And def postId = response.id
+
+    Given path '/api/comments'
+    And request { content: 'First comment', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 201
+    And def commentId = response.id
+
+    Given path '/api/comments'
+    And request { content: 'Second comment', postId: '#(postId)', userId: '#(userId)' }
+    When method POST
+    Then status 201
+
+    Given path '/api/posts', postId
+    When method DELETE
+    Then status 204
+
+    # Deleting a comment of the deleted post must not leave a negative count
+    Given path '/api/comments', commentId
+    When method DELETE
+    Then status 204
+
+    Given path '/api/posts/trending'
+    And param window = '1h'
+    When method GET
+    Then status 200
+    And match each response == { postId: '#uuid', comments: '#? _ > 0' }
+    And match response[*].postId !contains postId
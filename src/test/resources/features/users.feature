@@ -15,8 +15,9 @@ Feature: User Management API
     And match response[0].updatedAt == '#present'
 
   Scenario: Get user by ID
-    # First get all users to get a valid ID
+    # First get one user to get a valid ID
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id
@@ -51,6 +52,7 @@ Feature: User Management API
   Scenario: Update user
     # First get a user
     Given path '/api/users'
+    And param limit = 1
     When method GET
     Then status 200
     And def userId = response[0].id